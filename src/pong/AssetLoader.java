@@ -0,0 +1,166 @@
+package pong;
+
+import processing.core.PImage;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import java.awt.Font;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This loads the game's images, sounds and fonts from the classpath on background threads. <br>
+ * Each asset is loaded at the same time so the game can show the start menu while they finish loading.
+ *
+ * @author Toby Essex
+ */
+class AssetLoader {
+    /**
+     * This runs the loading tasks (one thread per core, up to the number of assets the game has).
+     */
+    private final ExecutorService executor;
+    /**
+     * This holds every asset which has been asked for so we know when they have all finished loading.
+     */
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+
+    /**
+     * AssetLoader constructor.
+     */
+    AssetLoader() {
+        int threads = Math.max(1, Math.min(5, Runtime.getRuntime().availableProcessors()));
+
+        // Each thread is numbered so they can be told apart (e.g. in a thread dump while the game is starting)
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            // Daemon threads so loading never stops the game from closing
+            Thread thread = new Thread(task, "pong-asset-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading an image.
+     *
+     * @param path Path of the image on the classpath (e.g. <strong>/images/icon.png</strong>).
+     * @return Returns a future which completes with the image once it has loaded (the image is null if it couldn't be loaded).
+     */
+    CompletableFuture<PImage> image(String path) {
+        return submit(path, () -> {
+            try (InputStream in = open(path)) {
+                return new PImage(ImageIO.read(in));
+            }
+        });
+    }
+
+    /**
+     * Starts loading a sound into memory so it is ready to be played.
+     *
+     * @param path Path of the audio file on the classpath (e.g. <strong>/audio/hit_wall.wav</strong>).
+     * @return Returns a future which completes with the sound once it has loaded (the sound is null if it couldn't be loaded).
+     */
+    CompletableFuture<Clip> sound(String path) {
+        return submit(path, () -> {
+            // The audio system needs a stream which supports mark and reset so the file is buffered
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(open(path)))) {
+                Clip clip = AudioSystem.getClip();
+                clip.open(in);
+                return clip;
+            }
+        });
+    }
+
+    /**
+     * Starts loading a font. <br>
+     * This only loads the font itself, it needs to be turned into a Processing font (PFont) on the thread which draws the game.
+     *
+     * @param name Name of the font.
+     * @param size Size to load the font at (this should be the largest size the font is drawn at).
+     * @return Returns a future which completes with the font once it has loaded (the font is null if it couldn't be loaded).
+     */
+    CompletableFuture<Font> font(String name, float size) {
+        return submit(name, () -> {
+            Font font = new Font(name, Font.PLAIN, Math.round(size));
+
+            // Fonts aren't read from disk until they are first used, so use it now rather than when the first text is drawn
+            font.canDisplay('0');
+
+            return font;
+        });
+    }
+
+    /**
+     * Stops any more assets being loaded. <br>
+     * Assets which have already been asked for will still finish loading.
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns whether every asset has finished loading (including any which failed to load).
+     */
+    boolean isDone() {
+        for (int i = 0; i < pending.size(); i++) {
+            if (!pending.get(i).isDone()) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs a loading task on the loader's threads. <br>
+     * If the task fails the error is printed and the asset will be null.
+     *
+     * @param name Name of the asset (used for the error message).
+     * @param task Task which loads the asset.
+     * @return Returns a future which completes with the loaded asset.
+     */
+    private <T> CompletableFuture<T> submit(String name, LoadTask<T> task) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.load();
+            } catch (Exception e) {
+                System.out.println("Error loading " + name + ": " + e.getMessage());
+                return null;
+            }
+        }, executor);
+
+        pending.add(future);
+
+        return future;
+    }
+
+    /**
+     * Opens a file from the classpath.
+     *
+     * @param path Path of the file on the classpath.
+     * @return Returns the open file.
+     * @throws FileNotFoundException If the file isn't on the classpath.
+     */
+    private InputStream open(String path) throws FileNotFoundException {
+        InputStream in = AssetLoader.class.getResourceAsStream(path);
+
+        if (in == null) throw new FileNotFoundException(path + " was not found on the classpath");
+
+        return in;
+    }
+
+    /**
+     * This represents a task which loads a single asset.
+     */
+    private interface LoadTask<T> {
+        T load() throws Exception;
+    }
+}
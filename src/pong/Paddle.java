@@ -65,6 +65,15 @@ public class Paddle {
         y = 0;
     }
 
+    /**
+     * Moves the paddle straight to a position (used by the tests to start the paddle anywhere).
+     *
+     * @param y The y position to move the middle of the paddle to.
+     */
+    void place(float y) {
+        this.y = y - (parent.height / 2);
+    }
+
     /**
      * This displays the object and sets it colour and shape and position.
      */
@@ -74,7 +83,7 @@ public class Paddle {
         float _x = x + (isLeft ? 10 : parent.width - 10);
         float _y = y + (parent.height / 2);
 
-        parent.rectMode(parent.CENTER);
+        parent.rectMode(PApplet.CENTER);
         parent.rect(_x, _y, width, height);
     }
 
@@ -89,6 +98,11 @@ public class Paddle {
         if (is_up ? getY() - (getHeight() / 2) <= 10 : getY() + (getHeight() / 2) >= parent.height - 10) return;
 
         y = is_up ? y - SPEED_CONSTANT : y + SPEED_CONSTANT;
+
+        // Stop the paddle at the boundary if it was closer to it than a full step
+        float top = 10 + (getHeight() / 2) - (parent.height / 2);
+        float bottom = (parent.height / 2) - 10 - (getHeight() / 2);
+        y = PApplet.constrain(y, top, bottom);
     }
 
     /**
@@ -98,9 +112,17 @@ public class Paddle {
      * @return - Returns the correct angle to return the puck.
      */
     int getReturnAngle(Puck puck) {
-        float paddle_y_top = getY() - (getHeight() / 2);
+        return getReturnAngle(puck.getY());
+    }
 
-        float puck_y = puck.getY();
+    /**
+     * Depending on which part of the paddle was hit will determine which angle to return the puck.
+     *
+     * @param puck_y The Y coordinate of the puck when it hit the paddle.
+     * @return - Returns the correct angle to return the puck.
+     */
+    int getReturnAngle(float puck_y) {
+        float paddle_y_top = getY() - (getHeight() / 2);
 
         float base_num = puck_y - paddle_y_top;
 
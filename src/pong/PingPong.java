@@ -1,11 +1,20 @@
 package pong;
 
 import processing.core.PApplet;
-import sun.audio.AudioPlayer;
-import sun.audio.AudioStream;
+import processing.core.PFont;
+import processing.core.PImage;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import com.sun.management.OperatingSystemMXBean;
+
+import javax.sound.sampled.Clip;
+import java.awt.Font;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 
 /**
@@ -17,13 +26,21 @@ public class PingPong extends PApplet {
     /**
      * This is the maximum score a player can have (aka. The game is over once a player reached 10 points).
      */
-    private final int MAX_SCORE = 21;
+    final int MAX_SCORE = 21;
+    /**
+     * This is how often (in milliseconds) the screen is redrawn while the game is idle (i.e. on a menu or paused).
+     */
+    private final int IDLE_REDRAW_INTERVAL = 1000;
 
     /**
      * This is used to determine the current state of the game. <br>
      * By default it is set to the start screen therefore the start menu will be displayed first.
      */
     private GameState currentGameState = GameState.START_MENU;
+    /**
+     * This is the game state which was drawn on the last frame (or null before the first frame is drawn).
+     */
+    private GameState drawnGameState = null;
     /**
      * This represents the puck.
      */
@@ -52,6 +69,76 @@ public class PingPong extends PApplet {
      * This is used to know when the <strong>down</strong> arrow is being pressed.
      */
     private boolean downPressed = false;
+    /**
+     * This holds the text for every score a player can have so the scores don't need to be converted to a string every frame.
+     */
+    private final String[] scoreLabels = new String[MAX_SCORE + 1];
+    /**
+     * This holds each sound already loaded into memory so playing a sound doesn't need to open the audio file again.
+     */
+    private final EnumMap<Sound, Clip> soundClips = new EnumMap<>(Sound.class);
+    /**
+     * This holds the sounds waiting to be played (one bit for each sound, using the sound's ordinal).
+     */
+    private final AtomicInteger pendingSounds = new AtomicInteger();
+    /**
+     * This plays the sounds which are waiting to be played, so the game itself never has to start or stop a sound.
+     */
+    private Thread audioThread;
+    /**
+     * This is the time (in nanoseconds) the game was launched, used to measure how long the game takes to start.
+     */
+    private final long launchTime = System.nanoTime();
+    /**
+     * This is used to know whether the first frame has been drawn yet.
+     */
+    private boolean firstFrameDrawn = false;
+    /**
+     * This is used to know whether all the assets have loaded. <br>
+     * The game can't be started until they have so the first rally doesn't stutter.
+     */
+    private boolean assetsLoaded = false;
+    /**
+     * This loads the images, sounds and fonts in the background.
+     */
+    private AssetLoader assetLoader;
+    /**
+     * This is the window icon being loaded.
+     */
+    private CompletableFuture<PImage> icon;
+    /**
+     * This is the font being loaded (used for all the text in the game).
+     */
+    private CompletableFuture<Font> font;
+    /**
+     * This holds each sound being loaded.
+     */
+    private final EnumMap<Sound, CompletableFuture<Clip>> loadingSounds = new EnumMap<>(Sound.class);
+    /**
+     * This is the button the mouse was over when the screen was last drawn (or null if it wasn't over one). <br>
+     * While the game is idle the screen is only redrawn when this changes.
+     */
+    private MenuButton lastHoveredButton = null;
+    /**
+     * This redraws the screen every so often while the game is idle.
+     */
+    private Timer idleTimer;
+    /**
+     * This is the time (in nanoseconds) the game last became idle.
+     */
+    private long idleStartedAt;
+    /**
+     * This is the CPU time (in nanoseconds) the game had used when it last became idle.
+     */
+    private long idleStartedAtCpuTime;
+    /**
+     * This is the total time (in nanoseconds) the game has been idle.
+     */
+    private long totalIdleTime = 0;
+    /**
+     * This is the total CPU time (in nanoseconds) used while the game has been idle.
+     */
+    private long totalIdleCpuTime = 0;
 
     /**
      * Main method this is the entry point for the game.
@@ -73,25 +160,67 @@ public class PingPong extends PApplet {
      * Set up any var or information for the game such as instantiate objects.
      */
     public void setup() {
+        // Start loading the assets first so they load while everything else is set up
+        loadAssets();
+
+        createGameObjects();
+
+        // While the game is idle it isn't redrawn every frame, so redraw it every so often in case anything has changed
+        idleTimer = new Timer("pong-idle-redraw", true);
+        idleTimer.scheduleAtFixedRate(new TimerTask() {
+            public void run() {
+                // This does nothing while the game is drawing every frame, so it doesn't need to check whether the game is idle
+                redraw();
+            }
+        }, IDLE_REDRAW_INTERVAL, IDLE_REDRAW_INTERVAL);
+    }
+
+    /**
+     * Creates the puck and paddles and anything else the game needs while it is being played. <br>
+     * This doesn't need a window so the game can also be played without one (e.g. by the tests).
+     */
+    void createGameObjects() {
         puck = new Puck(this);
         leftPaddle = new Paddle(this, true);
         rightPaddle = new Paddle(this, false);
+
+        for (int i = 0; i < scoreLabels.length; i++) {
+            scoreLabels[i] = String.valueOf(i);
+        }
     }
 
     /**
      * Called every frame.
      */
     public void draw() {
+        if (!firstFrameDrawn) {
+            firstFrameDrawn = true;
+            printStartupTime("Time to first frame");
+        }
+
+        // Once everything has loaded in the background it can be used by the game
+        if (!assetsLoaded && assetLoader.isDone()) {
+            useLoadedAssets();
+            printStartupTime("Time to interactive");
+        }
+
         // Set background to black
         background(0);
         fill(255);
 
+        // The game state can change while the screen is being drawn (e.g. when the game finishes) so remember which one was drawn
+        GameState drawing = currentGameState;
+
         // Checks the current menu state and displays the correct screen accordingly
-        switch (currentGameState) {
+        switch (drawing) {
             case START_MENU:
                 startMenu();
                 break;
             case GAME:
+                // Setting the text size creates objects in the renderer, so it is only set when play starts or resumes
+                // rather than every frame (the menus change it, so it has to be set again each time)
+                if (drawnGameState != GameState.GAME) textSize(40);
+
                 game();
                 // Once the game is playing always check to see if the game has finished
                 checkGameOver();
@@ -99,7 +228,79 @@ public class PingPong extends PApplet {
             case GAME_OVER:
                 gameOver();
                 break;
+            case PAUSED:
+                paused();
+                break;
+        }
+
+        drawnGameState = drawing;
+
+        lastHoveredButton = hoveredButton();
+
+        updateRenderMode();
+    }
+
+    /**
+     * Stops drawing every frame while the game is idle (i.e. not being played) and starts again once it is being played. <br>
+     * The game is kept drawing every frame until the assets have loaded so the start menu appears as soon as they are ready.
+     */
+    private void updateRenderMode() {
+        boolean isIdle = currentGameState != GameState.GAME && assetsLoaded;
+
+        if (isIdle && isLooping()) {
+            noLoop();
+
+            // If the state changed while this frame was drawn (e.g. the game finished) the new screen hasn't been drawn yet,
+            // so draw it once more rather than leaving the last frame on the screen until the next redraw
+            if (drawnGameState != currentGameState) redraw();
+
+            idleStartedAt = System.nanoTime();
+            idleStartedAtCpuTime = getProcessCpuTime();
+        } else if (!isIdle && !isLooping()) {
+            loop();
+
+            totalIdleTime += System.nanoTime() - idleStartedAt;
+            totalIdleCpuTime += getProcessCpuTime() - idleStartedAtCpuTime;
+            printIdleUsage();
+        }
+    }
+
+    /**
+     * Returns the CPU time (in nanoseconds) used by the game so far, or 0 if the JVM can't measure it.
+     */
+    private long getProcessCpuTime() {
+        OperatingSystemMXBean bean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+
+        return bean != null ? bean.getProcessCpuTime() : 0;
+    }
+
+    /**
+     * Prints how much CPU time the game has used per hour while idle. <br>
+     * This is also the share of one core used while idle, which is what the power use while idle depends on.
+     */
+    private void printIdleUsage() {
+        if (totalIdleTime <= 0) return;
+
+        double cpuSecondsPerHour = (double) totalIdleCpuTime / totalIdleTime * 3600;
+        System.out.println(String.format(
+                "Idle: %.1fs of CPU time per idle hour (%.2f%% of one core) over %ds idle",
+                cpuSecondsPerHour, cpuSecondsPerHour / 36, totalIdleTime / 1000000000
+        ));
+    }
+
+    /**
+     * Called when the game is closed.
+     */
+    public void exit() {
+        // Include the current idle period (the game is always idle when the exit button is pressed)
+        if (!isLooping()) {
+            totalIdleTime += System.nanoTime() - idleStartedAt;
+            totalIdleCpuTime += getProcessCpuTime() - idleStartedAtCpuTime;
         }
+
+        printIdleUsage();
+
+        super.exit();
     }
 
     /**
@@ -114,6 +315,14 @@ public class PingPong extends PApplet {
             upPressed = true;
         } else if (keyCode == DOWN) {
             downPressed = true;
+        } else if (key == 'p') {
+            // Pause or resume the game
+            if (currentGameState == GameState.GAME) {
+                currentGameState = GameState.PAUSED;
+            } else if (currentGameState == GameState.PAUSED) {
+                currentGameState = GameState.GAME;
+                redraw();
+            }
         }
     }
 
@@ -132,15 +341,29 @@ public class PingPong extends PApplet {
         }
     }
 
+    /**
+     * Called every time the mouse moves.
+     */
+    public void mouseMoved() {
+        // While the game is idle only redraw if the mouse has moved on or off a button (so the button changes size)
+        if (!isLooping() && hoveredButton() != lastHoveredButton) {
+            redraw();
+        }
+    }
+
     /**
      * Called every time the mouse is pressed.
      */
     public void mousePressed() {
         // Only want to check for mouse click if the game state is START_MENU or GAME_OVER
-        if (currentGameState == GameState.GAME) return;
+        if (currentGameState == GameState.GAME || currentGameState == GameState.PAUSED) return;
+
+        // Redraw in case the click has changed what is on the screen
+        redraw();
 
         if (isMouseOver(MenuButton.START)) {
-            currentGameState = GameState.GAME;
+            // The game can't be started until everything has loaded
+            if (assetsLoaded) currentGameState = GameState.GAME;
         } else if (isMouseOver(MenuButton.RESTART)) {
             puck.reset();
             leftPaddle.reset();
@@ -168,6 +391,25 @@ public class PingPong extends PApplet {
         }
     }
 
+    /**
+     * Returns the button the mouse is over on the current screen, or null if it isn't over one.
+     */
+    private MenuButton hoveredButton() {
+        switch (currentGameState) {
+            case START_MENU:
+                if (isMouseOver(MenuButton.START)) return MenuButton.START;
+                break;
+            case GAME_OVER:
+                if (isMouseOver(MenuButton.RESTART)) return MenuButton.RESTART;
+                break;
+            default:
+                // The game and pause screens don't have any buttons
+                return null;
+        }
+
+        return isMouseOver(MenuButton.EXIT) ? MenuButton.EXIT : null;
+    }
+
     /**
      * Displays the start menu.
      */
@@ -184,8 +426,14 @@ public class PingPong extends PApplet {
         text("First to 10 points wins!", width / 2, height / 2);
 
         // If the mouse is over then we want the text to be larger (for UI effect)
-        textSize(isMouseOver(MenuButton.START) ? 55 : 50);
-        text("Start", width / 2, height / 2 + 150);
+        // The start button is only shown once everything has loaded
+        if (assetsLoaded) {
+            textSize(isMouseOver(MenuButton.START) ? 55 : 50);
+            text("Start", width / 2, height / 2 + 150);
+        } else {
+            textSize(40);
+            text("Loading...", width / 2, height / 2 + 150);
+        }
 
         // If the mouse is over then we want the text to be larger (for UI effect)
         textSize(isMouseOver(MenuButton.EXIT) ? 55 : 50);
@@ -193,26 +441,54 @@ public class PingPong extends PApplet {
     }
 
     /**
-     * Displays the game.
+     * Displays the game and moves everything by one frame.
      */
-    private void game() {
-        // Set the left paddle (player) score on the left and the right paddle (player) score on the right
+    void game() {
+        showGame();
+
+        updateGame();
+    }
+
+    /**
+     * Displays the game when it is paused.
+     */
+    private void paused() {
+        // Show the game where it was paused but don't move anything
         textSize(40);
-        text(leftPaddle.getScore(), 40, 50);
-        text(rightPaddle.getScore(), width - 40, 50);
+        showGame();
+
+        textAlign(CENTER);
+
+        textSize(50);
+        text("Paused", width / 2, height / 2);
 
-        // Sets the text to be white and and a font size of 30
         textSize(30);
+        text("Press 'p' to resume", width / 2, height / 2 + 50);
+    }
 
-        // Display the paddles
+    /**
+     * Displays the scores, paddles and puck.
+     */
+    private void showGame() {
+        // Set the left paddle (player) score on the left and the right paddle (player) score on the right
+        text(scoreLabel(leftPaddle.getScore()), 40, 50);
+        text(scoreLabel(rightPaddle.getScore()), width - 40, 50);
+
+        // Display the paddles and the puck
         leftPaddle.show();
         rightPaddle.show();
+        puck.show();
+    }
 
+    /**
+     * Moves the paddles and the puck by one frame and handles any collisions. <br>
+     * This doesn't draw anything so it can also be called without a window.
+     */
+    void updateGame() {
         // Check so see if any keys are pressed and if so move the correct paddles
         movePaddlesOnPress();
 
-        // Show and start moving the puck
-        puck.show();
+        // Start moving the puck
         puck.move();
 
         // Check if the paddle has hit an side, if so give the player (opposite to which edge was hit) a point
@@ -266,31 +542,108 @@ public class PingPong extends PApplet {
     }
 
     /**
-     * Plays a sound from a audio file.
+     * Returns the text to display for a score. <br>
+     * Scores up to <strong>MAX_SCORE</strong> use the text created in setup so no new string is made every frame.
+     *
+     * @param score The score to display
+     * @return The score as text
+     */
+    private String scoreLabel(int score) {
+        return score >= 0 && score < scoreLabels.length ? scoreLabels[score] : String.valueOf(score);
+    }
+
+    /**
+     * Starts loading the icon, sounds and font from the classpath at the same time.
+     */
+    private void loadAssets() {
+        assetLoader = new AssetLoader();
+
+        icon = assetLoader.image("/images/icon.png");
+        // This is the font Processing uses when no font has been set, so the game looks the same as it would without preloading
+        // It is created at the largest size used in the game
+        font = assetLoader.font("Lucida Sans", 55);
+
+        for (Sound sound : Sound.values()) {
+            loadingSounds.put(sound, assetLoader.sound(sound.path));
+        }
+
+        assetLoader.shutdown();
+    }
+
+    /**
+     * Uses the assets once they have all loaded. <br>
+     * Any asset which failed to load is skipped (e.g. a sound which failed to load won't be played).
+     */
+    private void useLoadedAssets() {
+        PImage loadedIcon = icon.join();
+        if (loadedIcon != null) {
+            getSurface().setIcon(loadedIcon);
+        }
+
+        // The font is only turned into a Processing font here, as that has to happen on the same thread which draws the game
+        Font loadedFont = font.join();
+        if (loadedFont != null) {
+            textFont(new PFont(loadedFont, true));
+        }
+
+        for (Sound sound : Sound.values()) {
+            Clip clip = loadingSounds.get(sound).join();
+            if (clip != null) {
+                soundClips.put(sound, clip);
+            }
+        }
+
+        // Daemon thread so it never stops the game from closing
+        audioThread = new Thread(this::playPendingSounds, "pong-audio");
+        audioThread.setDaemon(true);
+        audioThread.start();
+
+        assetsLoaded = true;
+    }
+
+    /**
+     * Prints how long it has been since the game was launched.
+     *
+     * @param name Name of the startup stage which has been reached
+     */
+    private void printStartupTime(String name) {
+        System.out.println(name + ": " + (System.nanoTime() - launchTime) / 1000000 + "ms");
+    }
+
+    /**
+     * Plays a sound which was loaded in setup. <br>
+     * Starting and stopping a clip creates objects (e.g. line events), so the sound is only marked as waiting to be played
+     * and the audio thread plays it. This keeps the game from creating any objects while it is being played.
      *
      * @param sound Sound to play (will be one of the 3 ENUM values)
      */
     private void playSound(Sound sound) {
-        try {
-            InputStream in;
-            switch (sound) {
-                case HIT_PADDLE:
-                    in = new FileInputStream(System.getProperty("user.dir") + "\\src\\audio\\hit_paddle.wav");
-                    break;
-                case HIT_WALL:
-                    in = new FileInputStream(System.getProperty("user.dir") + "\\src\\audio\\hit_wall.wav");
-                    break;
-                case MISS_BALL:
-                    in = new FileInputStream(System.getProperty("user.dir") + "\\src\\audio\\miss_ball.wav");
-                    break;
-                default:
-                    throw new Exception("That is an invalid sound type");
+        pendingSounds.getAndAccumulate(1 << sound.ordinal(), (pending, bit) -> pending | bit);
 
+        // Wake up the audio thread (this does nothing if it hasn't been started yet)
+        LockSupport.unpark(audioThread);
+    }
+
+    /**
+     * Run by the audio thread, this plays any sounds waiting to be played and then waits until there are more.
+     */
+    private void playPendingSounds() {
+        while (true) {
+            int pending = pendingSounds.getAndSet(0);
+
+            for (Sound sound : Sound.values()) {
+                Clip clip = soundClips.get(sound);
+
+                // The sound isn't waiting to be played or it failed to load so there is nothing to play
+                if ((pending & 1 << sound.ordinal()) == 0 || clip == null) continue;
+
+                // Rewind the sound so it plays from the start even if it is still playing from the last hit
+                clip.stop();
+                clip.setFramePosition(0);
+                clip.start();
             }
 
-            AudioPlayer.player.start(new AudioStream(in));
-        } catch (Exception e) {
-            System.out.println("Error playing sound file: " + e.getMessage());
+            LockSupport.park();
         }
     }
 
@@ -317,6 +670,27 @@ public class PingPong extends PApplet {
         text("Exit", width / 2, height / 2 + 225);
     }
 
+    /**
+     * Returns the puck.
+     */
+    Puck getPuck() {
+        return puck;
+    }
+
+    /**
+     * Returns the left paddle.
+     */
+    Paddle getLeftPaddle() {
+        return leftPaddle;
+    }
+
+    /**
+     * Returns the right paddle.
+     */
+    Paddle getRightPaddle() {
+        return rightPaddle;
+    }
+
     /**
      * Checks to see if either player has won and if so set the game state to <strong>GAME_OVER</strong>.
      * <br>
@@ -332,14 +706,23 @@ public class PingPong extends PApplet {
      * This represents all the different sounds that can be played.
      */
     private enum Sound {
-        HIT_PADDLE, HIT_WALL, MISS_BALL
+        HIT_PADDLE("/audio/hit_paddle.wav"), HIT_WALL("/audio/hit_wall.wav"), MISS_BALL("/audio/miss_ball.wav");
+
+        /**
+         * This is the path of the audio file on the classpath.
+         */
+        private final String path;
+
+        Sound(String path) {
+            this.path = path;
+        }
     }
 
     /**
      * This represents all the different game states.
      */
     private enum GameState {
-        START_MENU, GAME, GAME_OVER
+        START_MENU, GAME, GAME_OVER, PAUSED
     }
 
     /**
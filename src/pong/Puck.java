@@ -12,7 +12,7 @@ public class Puck {
      * This represents the height and width of the puck (in pixels). <br>
      * As it's round a diameter was set instead of a separate left and right variable.
      */
-    private final int DIAMETER = 20;
+    final int DIAMETER = 20;
     /**
      * This constant is used to keep the puck's speed the same which ever direction it is moving.
      */
@@ -67,21 +67,18 @@ public class Puck {
         y = 0;
 
         // Random angle to start the puck in
-        float angle = parent.random(parent.TWO_PI);
+        float angle = parent.random(PApplet.TWO_PI);
+        float degrees = angle * PApplet.RAD_TO_DEG;
 
         // This stops the puck starting at an obscure angle
-        while (
-                (angle * parent.RAD_TO_DEG >= 45 && angle * parent.RAD_TO_DEG <= 90)   ||
-                (angle * parent.RAD_TO_DEG >= 90 && angle * parent.RAD_TO_DEG <= 135)  ||
-                (angle * parent.RAD_TO_DEG >= 225 && angle * parent.RAD_TO_DEG <= 270) ||
-                (angle * parent.RAD_TO_DEG >= 270 && angle * parent.RAD_TO_DEG <= 315)
-                ) {
+        while ((degrees >= 45 && degrees <= 135) || (degrees >= 225 && degrees <= 315)) {
             // Recalculate the angle
-            angle = parent.random(parent.TWO_PI);
+            angle = parent.random(PApplet.TWO_PI);
+            degrees = angle * PApplet.RAD_TO_DEG;
         }
 
         // This determines whether the puck is going left or right and sets the variable accordingly
-        if (angle < parent.PI * 1.5f && angle > parent.PI / 2) {
+        if (angle < PApplet.PI * 1.5f && angle > PApplet.PI / 2) {
             isMovingRight = false;
         }
 
@@ -179,12 +176,12 @@ public class Puck {
                 angle = 180;
             } else {
                 // This check to see whether the angle is negative or not and does the correct calculation accordingly
-                angle = angle < 0 ? -180 - angle : 180 - 30;
+                angle = angle < 0 ? -180 - angle : 180 - angle;
             }
         }
 
         // The angle needs to be converted to radians to work
-        float angle_in_radians = angle * parent.DEG_TO_RAD;
+        float angle_in_radians = angle * PApplet.DEG_TO_RAD;
 
         // Set the correct speed and angle
         // Multiply speed constant by cos and sin so it speed it's always the same which ever direction it moves
@@ -199,10 +196,21 @@ public class Puck {
     }
 
     /**
-     * This is called when the puck if bouncing of either the top or bottom of the game.
+     * This is called when the puck if bouncing of either the top or bottom of the game. <br>
+     * The puck is moved back inside the game and always sent away from the edge it hit (rather than just reversing its direction),
+     * so it can't get stuck outside the game if it is still past the edge on the next frame.
      */
     void bounceOfTopOrBottom() {
-        ySpeed *= -1;
+        float top = DIAMETER / 2 - (parent.height / 2);
+        float bottom = (parent.height / 2) - DIAMETER / 2;
+
+        if (y < top) {
+            y = top;
+            ySpeed = Math.abs(ySpeed);
+        } else if (y > bottom) {
+            y = bottom;
+            ySpeed = -Math.abs(ySpeed);
+        }
     }
 
     /**
@@ -211,4 +219,34 @@ public class Puck {
     boolean isMovingRight() {
         return isMovingRight;
     }
+
+    /**
+     * Returns the speed of the puck on the X axis (horizontal speed).
+     */
+    float getXSpeed() {
+        return xSpeed;
+    }
+
+    /**
+     * Returns the speed of the puck on the Y axis (vertical speed).
+     */
+    float getYSpeed() {
+        return ySpeed;
+    }
+
+    /**
+     * Moves the puck straight to a position and sets its speed (used by the tests to start the puck anywhere).
+     *
+     * @param x The x position to move the puck to.
+     * @param y The y position to move the puck to.
+     * @param xSpeed The speed of the puck on the X axis (the puck is moving right if this is positive).
+     * @param ySpeed The speed of the puck on the Y axis.
+     */
+    void place(float x, float y, float xSpeed, float ySpeed) {
+        this.x = x - (parent.width / 2);
+        this.y = y - (parent.height / 2);
+        this.xSpeed = xSpeed;
+        this.ySpeed = ySpeed;
+        this.isMovingRight = xSpeed > 0;
+    }
 }
@@ -0,0 +1,110 @@
+package pong;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the game doesn't create any objects while it is being played. <br>
+ * The game is played without a window for thousands of frames (moving the paddles, hitting the puck, scoring and playing
+ * sounds) and the memory allocated by this thread is measured. If any memory was allocated the test fails.
+ * <br>
+ * The game is drawn with {@link HeadlessPingPong}, which stubs out every call to the renderer (e.g. <strong>text</strong>
+ * and <strong>textSize</strong>). Only the game's own code is measured, not the memory Processing allocates to draw it.
+ * <br>
+ * Run it with <strong>java pong.AllocationTest</strong>, it exits with a status of 1 if the test fails.
+ *
+ * @author Toby Essex
+ */
+class AllocationTest {
+    /**
+     * This is the number of frames played before measuring so every class is loaded and the code has been compiled.
+     */
+    private static final int WARM_UP_TICKS = 50000;
+    /**
+     * This is the number of frames which are measured.
+     */
+    private static final int TICKS = 10000;
+    /**
+     * This is how many frames the same keys are held down for.
+     */
+    private static final int TICKS_PER_KEY_PATTERN = 30;
+    /**
+     * This is used to seed the random numbers (for the puck's angle) so every run plays the same game.
+     */
+    private static final long SEED = 1;
+
+    public static void main(String[] args) {
+        ThreadMXBean threads = ManagementFactory.getPlatformMXBean(ThreadMXBean.class);
+        long threadId = Thread.currentThread().getId();
+
+        HeadlessPingPong game = new HeadlessPingPong();
+        game.randomSeed(SEED);
+
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            tick(game, i);
+        }
+
+        // Measuring the allocated memory can allocate memory itself, so find out how much so it can be taken away
+        long overhead = -threads.getThreadAllocatedBytes(threadId);
+        overhead += threads.getThreadAllocatedBytes(threadId);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < TICKS; i++) {
+            tick(game, i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+
+        System.out.println(String.format("Allocated %d bytes over %d frames (%.2f bytes per frame)", allocated, TICKS, (double) allocated / TICKS));
+
+        if (allocated > 0) {
+            System.out.println("FAILED: the game allocated memory while it was being played");
+            System.exit(1);
+        }
+
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Plays a single frame of the game.
+     *
+     * @param game The game to play.
+     * @param tick The number of the frame (used to decide which keys are held down).
+     */
+    private static void tick(HeadlessPingPong game, int tick) {
+        // Change which keys are held down every so often so the paddles move both up and down
+        if (tick % TICKS_PER_KEY_PATTERN == 0) {
+            game.release('w', 0);
+            game.release('s', 0);
+            game.release(PingPong.CODED, PingPong.UP);
+            game.release(PingPong.CODED, PingPong.DOWN);
+
+            switch (tick / TICKS_PER_KEY_PATTERN % 4) {
+                case 0:
+                    game.press('w', 0);
+                    game.press(PingPong.CODED, PingPong.UP);
+                    break;
+                case 1:
+                    game.press('s', 0);
+                    game.press(PingPong.CODED, PingPong.DOWN);
+                    break;
+                case 2:
+                    game.press('w', 0);
+                    game.press(PingPong.CODED, PingPong.DOWN);
+                    break;
+                default:
+                    // No keys held down
+                    break;
+            }
+        }
+
+        game.game();
+
+        // Once a player has won start a new game (the same as pressing restart on the game over screen)
+        if (game.getLeftPaddle().getScore() >= game.MAX_SCORE || game.getRightPaddle().getScore() >= game.MAX_SCORE) {
+            game.getPuck().reset();
+            game.getLeftPaddle().reset();
+            game.getRightPaddle().reset();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pong;
+
+/**
+ * This is a game which can be played without a window. <br>
+ * Everything which would draw to the screen does nothing, so only the game's own code is run. This means anything the
+ * renderer does (e.g. creating fonts when the text size changes) isn't run or measured by the tests which use it.
+ *
+ * @author Toby Essex
+ */
+class HeadlessPingPong extends PingPong {
+    /**
+     * HeadlessPingPong constructor.
+     */
+    HeadlessPingPong() {
+        // This is the size set in settings(), which is only used once a window is opened
+        width = 800;
+        height = 600;
+
+        createGameObjects();
+    }
+
+    /**
+     * Presses a key down, the same as if it was pressed on the keyboard.
+     *
+     * @param key The key to press (either a character or <strong>CODED</strong> for the arrow keys).
+     * @param keyCode The arrow key to press when the key is <strong>CODED</strong>.
+     */
+    void press(char key, int keyCode) {
+        this.key = key;
+        this.keyCode = keyCode;
+        keyPressed();
+    }
+
+    /**
+     * Releases a key, the same as if it was released on the keyboard.
+     *
+     * @param key The key to release (either a character or <strong>CODED</strong> for the arrow keys).
+     * @param keyCode The arrow key to release when the key is <strong>CODED</strong>.
+     */
+    void release(char key, int keyCode) {
+        this.key = key;
+        this.keyCode = keyCode;
+        keyReleased();
+    }
+
+    public void background(int rgb) {
+    }
+
+    public void fill(int rgb) {
+    }
+
+    public void textSize(float size) {
+    }
+
+    public void textAlign(int alignX) {
+    }
+
+    public void text(String str, float x, float y) {
+    }
+
+    public void rectMode(int mode) {
+    }
+
+    public void rect(float a, float b, float c, float d) {
+    }
+
+    public void ellipse(float a, float b, float c, float d) {
+    }
+}
@@ -0,0 +1,295 @@
+package pong;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Plays the game from lots of random starting states and checks that the puck and paddles always follow the rules. <br>
+ * Each case is made from a seed, which decides where the puck and paddles start, how fast and which way the puck is
+ * moving and which keys are pressed on each frame. The cases are run on every core and after every frame it checks that:
+ * <ul>
+ *     <li>The puck hasn't gone past the top or bottom of the game (see <strong>Puck.hasHitTopOrBottom</strong>).</li>
+ *     <li>Neither paddle has gone past the 10 pixel margin at the top or bottom of the game.</li>
+ *     <li><strong>Puck.reset</strong> didn't start the puck at one of the angles it should avoid.</li>
+ *     <li>When the puck hits a paddle it is returned at the angle for the section of the paddle which was hit.</li>
+ * </ul>
+ * If any case fails, the failure with the fewest frames (and then the smallest seed) is printed so it can be replayed.
+ * <br>
+ * Run it with <strong>java pong.PhysicsFuzzer [cases] [frames]</strong>, or replay a failure with
+ * <strong>java pong.PhysicsFuzzer --replay &lt;seed&gt; &lt;frames&gt;</strong>. It exits with a status of 1 if the test fails.
+ *
+ * @author Toby Essex
+ */
+class PhysicsFuzzer {
+    /**
+     * This is the number of random cases to run if no number is given.
+     */
+    private static final int DEFAULT_CASES = 1000000;
+    /**
+     * This is the number of frames to play for each case if no number is given.
+     */
+    private static final int DEFAULT_FRAMES = 200;
+    /**
+     * This is the chance of a key being pressed or released on each frame.
+     */
+    private static final float KEY_CHANGE_CHANCE = 0.05f;
+    /**
+     * This is the fastest the puck can start moving (in pixels per frame).
+     */
+    private static final float MAX_PUCK_SPEED = 10;
+    /**
+     * This is the gap the paddles must keep from the top and bottom of the game (see <strong>Paddle.move</strong>).
+     */
+    private static final int PADDLE_MARGIN = 10;
+    /**
+     * This is how far (in degrees) an angle can be out by before it is counted as wrong, as the angles are worked out from floats.
+     */
+    private static final double ANGLE_TOLERANCE = 0.001;
+    /**
+     * These are the keys which move the paddles (the arrow keys are <strong>CODED</strong> keys).
+     */
+    private static final char[] KEYS = {'w', 's', PingPong.CODED, PingPong.CODED};
+    /**
+     * These are the key codes for each of the keys above (only used for the arrow keys).
+     */
+    private static final int[] KEY_CODES = {0, 0, PingPong.UP, PingPong.DOWN};
+
+    public static void main(String[] args) {
+        if (args.length == 3 && args[0].equals("--replay")) {
+            Failure failure = runCase(Long.parseLong(args[1]), Integer.parseInt(args[2]));
+
+            System.out.println(failure == null ? "PASSED: the case didn't fail" : "FAILED: " + failure);
+            System.exit(failure == null ? 0 : 1);
+        }
+
+        int cases = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CASES;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FRAMES;
+
+        long start = System.nanoTime();
+
+        // Keep the failure which is the quickest to replay
+        Optional<Failure> smallest = LongStream.range(0, cases)
+                .parallel()
+                .mapToObj(seed -> runCase(seed, frames))
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingInt((Failure failure) -> failure.frame).thenComparingLong(failure -> failure.seed));
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(
+                "Ran %d cases of %d frames in %.1fs (%.0f frames per second on %d cores)",
+                cases, frames, seconds, cases * (double) frames / seconds, Runtime.getRuntime().availableProcessors()
+        ));
+
+        if (smallest.isPresent()) {
+            Failure failure = smallest.get();
+
+            System.out.println("FAILED: " + failure);
+            System.out.println("Replay with: java pong.PhysicsFuzzer --replay " + failure.seed + " " + failure.frame);
+            System.exit(1);
+        }
+
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Plays a single case and checks the rules after every frame.
+     *
+     * @param seed The seed which decides the starting state and the keys pressed.
+     * @param frames The number of frames to play.
+     * @return Returns the first rule which was broken, or null if none were.
+     */
+    private static Failure runCase(long seed, int frames) {
+        Random random = new Random(seed);
+
+        HeadlessPingPong game = new HeadlessPingPong();
+        // Puck.reset uses the game's random numbers so they need to be seeded too
+        game.randomSeed(seed);
+
+        Puck puck = game.getPuck();
+        Paddle leftPaddle = game.getLeftPaddle();
+        Paddle rightPaddle = game.getRightPaddle();
+
+        // The puck is reset when it is created, but reset it again now the random numbers have been seeded
+        puck.reset();
+        String error = checkResetAngle(puck);
+        if (error != null) return new Failure(seed, 0, error);
+
+        // Start the puck anywhere inside the game, moving in any direction
+        float angle = random.nextFloat() * PingPong.TWO_PI;
+        float speed = 1 + random.nextFloat() * (MAX_PUCK_SPEED - 1);
+        float radius = puck.DIAMETER / 2;
+        puck.place(
+                random.nextFloat() * game.width,
+                radius + random.nextFloat() * (game.height - puck.DIAMETER),
+                speed * PingPong.cos(angle),
+                speed * PingPong.sin(angle)
+        );
+
+        // Start the paddles anywhere inside the margins (not just at the positions reachable from the middle)
+        leftPaddle.place(randomPaddleY(random, game, leftPaddle));
+        rightPaddle.place(randomPaddleY(random, game, rightPaddle));
+
+        boolean[] held = new boolean[KEYS.length];
+
+        for (int frame = 1; frame <= frames; frame++) {
+            if (random.nextFloat() < KEY_CHANGE_CHANCE) {
+                int i = random.nextInt(KEYS.length);
+                held[i] = !held[i];
+
+                if (held[i]) {
+                    game.press(KEYS[i], KEY_CODES[i]);
+                } else {
+                    game.release(KEYS[i], KEY_CODES[i]);
+                }
+            }
+
+            boolean wasMovingRight = puck.isMovingRight();
+            int totalScore = leftPaddle.getScore() + rightPaddle.getScore();
+
+            game.updateGame();
+
+            error = checkFrame(game, wasMovingRight, totalScore);
+            if (error != null) return new Failure(seed, frame, error);
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks the rules after a frame has been played.
+     *
+     * @param game The game being played.
+     * @param wasMovingRight Whether the puck was moving right before the frame.
+     * @param totalScore Both players' scores added together before the frame.
+     * @return Returns the rule which was broken, or null if none were.
+     */
+    private static String checkFrame(HeadlessPingPong game, boolean wasMovingRight, int totalScore) {
+        Puck puck = game.getPuck();
+
+        if (puck.hasHitTopOrBottom()) {
+            return "the puck went past the top or bottom of the game (y = " + puck.getY() + ")";
+        }
+
+        String error = checkPaddle(game, game.getLeftPaddle(), "left");
+        if (error == null) error = checkPaddle(game, game.getRightPaddle(), "right");
+        if (error != null) return error;
+
+        if (game.getLeftPaddle().getScore() + game.getRightPaddle().getScore() != totalScore) {
+            // A point was scored so the puck was reset
+            return checkResetAngle(puck);
+        }
+
+        if (puck.isMovingRight() != wasMovingRight) {
+            // The puck changed direction without a point being scored so it hit a paddle
+            // Bouncing off a paddle doesn't move the puck, so it is still where it hit the paddle
+            return checkPaddleReturn(game, wasMovingRight ? game.getRightPaddle() : game.getLeftPaddle(), puck.getY());
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks that a paddle is inside the margins at the top and bottom of the game.
+     *
+     * @param game The game being played.
+     * @param paddle The paddle to check.
+     * @param name The name of the paddle (used for the error message).
+     * @return Returns the rule which was broken, or null if it wasn't.
+     */
+    private static String checkPaddle(HeadlessPingPong game, Paddle paddle, String name) {
+        float top = paddle.getY() - (paddle.getHeight() / 2);
+        float bottom = paddle.getY() + (paddle.getHeight() / 2);
+
+        if (top < PADDLE_MARGIN || bottom > game.height - PADDLE_MARGIN) {
+            return "the " + name + " paddle went past the margin (top = " + top + ", bottom = " + bottom + ")";
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks that the puck isn't moving at one of the angles <strong>Puck.reset</strong> should avoid
+     * (45 to 135 and 225 to 315 degrees).
+     *
+     * @param puck The puck which has just been reset.
+     * @return Returns the rule which was broken, or null if it wasn't.
+     */
+    private static String checkResetAngle(Puck puck) {
+        double degrees = Math.toDegrees(Math.atan2(puck.getYSpeed(), puck.getXSpeed()));
+        if (degrees < 0) degrees += 360;
+
+        if ((degrees > 45 + ANGLE_TOLERANCE && degrees < 135 - ANGLE_TOLERANCE) ||
+                (degrees > 225 + ANGLE_TOLERANCE && degrees < 315 - ANGLE_TOLERANCE)) {
+            return "the puck was reset at an excluded angle (" + degrees + " degrees)";
+        }
+
+        if (puck.isMovingRight() != puck.getXSpeed() > 0) {
+            return "the puck was reset moving " + (puck.isMovingRight() ? "left" : "right") + " but thinks it is moving the other way";
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks that the puck was returned at the angle for the section of the paddle which it hit.
+     *
+     * @param game The game being played.
+     * @param paddle The paddle which was hit.
+     * @param contactY The puck's y position when it hit the paddle.
+     * @return Returns the rule which was broken, or null if it wasn't.
+     */
+    private static String checkPaddleReturn(HeadlessPingPong game, Paddle paddle, float contactY) {
+        Puck puck = game.getPuck();
+        double actual = Math.toDegrees(Math.atan2(puck.getYSpeed(), Math.abs(puck.getXSpeed())));
+        int expected = paddle.getReturnAngle(contactY);
+
+        if (puck.isMovingRight() != puck.getXSpeed() > 0) {
+            return "the puck was returned moving " + (puck.isMovingRight() ? "left" : "right") + " but thinks it is moving the other way";
+        }
+
+        if (Math.abs(actual - expected) <= ANGLE_TOLERANCE) return null;
+
+        return "the puck hit the paddle at y = " + contactY + " which should return it at " + expected + " degrees but it was returned at " + actual + " degrees";
+    }
+
+    /**
+     * Returns a random y position for the middle of a paddle which keeps it inside the margins.
+     */
+    private static float randomPaddleY(Random random, HeadlessPingPong game, Paddle paddle) {
+        float lowest = PADDLE_MARGIN + (paddle.getHeight() / 2);
+        float highest = game.height - PADDLE_MARGIN - (paddle.getHeight() / 2);
+
+        return lowest + random.nextFloat() * (highest - lowest);
+    }
+
+    /**
+     * This represents a case which broke one of the rules.
+     */
+    private static class Failure {
+        /**
+         * This is the seed of the case.
+         */
+        final long seed;
+        /**
+         * This is the frame the rule was broken on (0 means it was broken before the first frame).
+         */
+        final int frame;
+        /**
+         * This describes the rule which was broken.
+         */
+        final String error;
+
+        Failure(long seed, int frame, String error) {
+            this.seed = seed;
+            this.frame = frame;
+            this.error = error;
+        }
+
+        public String toString() {
+            return "seed " + seed + ", frame " + frame + ": " + error;
+        }
+    }
+}